@@ -60,9 +60,31 @@ public class Circuit {
 	 * @return C (&mu;F)
 	 */
 	public double getEffectiveCapacitanceMicroFarads() {
+		return calculateEffectiveCapacitanceMicroFarads(capacitors);
+	}
+	
+	/**
+	 * Combines the specified capacitors in series: 1 / Ce = 1 / C1 + 1 / C2 + ... + 1 / Cn
+	 * 
+	 * @param capacitors the capacitors in series
+	 * @return Ce (&mu;F)
+	 */
+	static double calculateEffectiveCapacitanceMicroFarads(List<Capacitor> capacitors) {
 		return 1. / capacitors.stream().collect(Collectors.summingDouble(c -> 1. / c.getCapacitanceMicroFarads()));
 	}
 	
+	/**
+	 * Calculates the time constant of a circuit with the specified effective
+	 * resistance and capacitance: &tau; = RC
+	 * 
+	 * @param effectiveResistanceOhms R (Ohms)
+	 * @param effectiveCapacitanceMicroFarads C (&mu;F)
+	 * @return &tau; (seconds)
+	 */
+	static double calculateTimeConstant(int effectiveResistanceOhms, double effectiveCapacitanceMicroFarads) {
+		return effectiveResistanceOhms * effectiveCapacitanceMicroFarads * Math.pow(10, -6);
+	}
+	
 	private double calculateTimeConstant() {
 		// Combine resistors: Re = R1 + R2 + ... + Rn
 		int effectiveResistanceOhms = getEffectiveResistanceOhms();
@@ -71,7 +93,7 @@ public class Circuit {
 		double effectiveCapacitanceMicroFarads = getEffectiveCapacitanceMicroFarads();
 		
 		// tau = RC
-		return effectiveResistanceOhms * effectiveCapacitanceMicroFarads * Math.pow(10, -6);
+		return calculateTimeConstant(effectiveResistanceOhms, effectiveCapacitanceMicroFarads);
 	}
 
 	@Override
@@ -1,7 +1,10 @@
 package me.timothy.physics.rc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import org.paukov.combinatorics.Factory;
@@ -197,6 +200,294 @@ public class RCCircuitGenerator {
 		return result;
 	}
 	
+	/**
+	 * Determines if any circuit with at most the specified number of resistors and
+	 * capacitors has a time constant within <code>tolerance</code> of <code>timeConstant</code>.
+	 * This is equivalent to checking if filtering {@link #getAllPossibleCircuits(int, int)} by
+	 * the time constant is non-empty, but stops at the first match and does not create any circuits.
+	 * 
+	 * <p>Only the side with fewer combinations is enumerated up front; the other side is enumerated
+	 * one combination at a time and stops as soon as a match is found.</p>
+	 * 
+	 * @param maxNumResistors maximum number of resistors
+	 * @param maxNumCapacitors maximum number of capacitors
+	 * @param timeConstant the time constant
+	 * @param tolerance allowed tolerance (or 0)
+	 * @return if at least one circuit is within tolerance
+	 */
+	public boolean existsCircuitWithTimeConstant(int maxNumResistors, int maxNumCapacitors, double timeConstant, double tolerance) {
+		return countCircuitsWithTimeConstant(maxNumResistors, maxNumCapacitors, timeConstant, tolerance, true) > 0;
+	}
+	
+	/**
+	 * Counts the circuits with at most the specified number of resistors and capacitors
+	 * that have a time constant within <code>tolerance</code> of <code>timeConstant</code>.
+	 * This is equivalent to the size of {@link #getAllPossibleCircuits(int, int)} after filtering
+	 * by the time constant, but does not create any circuits.
+	 * 
+	 * <p>The side with fewer combinations is sorted. For each combination on the other side the
+	 * matches form a contiguous range of the sorted side, since &tau; = RC is increasing in both
+	 * R and C, so each combination only costs two binary searches.</p>
+	 * 
+	 * @param maxNumResistors maximum number of resistors
+	 * @param maxNumCapacitors maximum number of capacitors
+	 * @param timeConstant the time constant
+	 * @param tolerance allowed tolerance (or 0)
+	 * @return the number of circuits within tolerance
+	 */
+	public long countCircuitsWithTimeConstant(int maxNumResistors, int maxNumCapacitors, double timeConstant, double tolerance) {
+		return countCircuitsWithTimeConstant(maxNumResistors, maxNumCapacitors, timeConstant, tolerance, false);
+	}
+	
+	/**
+	 * Counts the circuits within tolerance of the time constant, optionally stopping
+	 * once any are found.
+	 * 
+	 * @param maxNumResistors maximum number of resistors
+	 * @param maxNumCapacitors maximum number of capacitors
+	 * @param timeConstant the time constant
+	 * @param tolerance allowed tolerance (or 0)
+	 * @param stopAtFirstMatch if enumeration should stop as soon as the count is positive
+	 * @return the number of circuits within tolerance, or some positive number if stopping early
+	 */
+	private long countCircuitsWithTimeConstant(int maxNumResistors, int maxNumCapacitors, double timeConstant, double tolerance, 
+			boolean stopAtFirstMatch) {
+		final long[] count = new long[1];
+		if(countMultiCombinations(resistors.size(), maxNumResistors) <= countMultiCombinations(capacitors.size(), maxNumCapacitors)) {
+			int[] effectiveResistances = getEffectiveResistancesOhms(maxNumResistors);
+			if(effectiveResistances.length == 0) {
+				return 0;
+			}
+			forEachEffectiveCapacitance(maxNumCapacitors, effectiveCapacitance -> {
+				count[0] += countResistancesInRange(effectiveResistances, effectiveCapacitance, timeConstant, tolerance);
+				return !stopAtFirstMatch || count[0] == 0;
+			});
+		}else {
+			double[] effectiveCapacitances = getEffectiveCapacitancesMicroFarads(maxNumCapacitors);
+			if(effectiveCapacitances.length == 0) {
+				return 0;
+			}
+			Arrays.sort(effectiveCapacitances);
+			forEachEffectiveResistance(maxNumResistors, effectiveResistance -> {
+				count[0] += countCapacitancesInRange(effectiveCapacitances, effectiveResistance, timeConstant, tolerance);
+				return !stopAtFirstMatch || count[0] == 0;
+			});
+		}
+		return count[0];
+	}
+	
+	/**
+	 * Counts the effective resistances which, combined with the effective capacitance, are within
+	 * tolerance of the time constant. The comparison is done exactly as in
+	 * {@link #filterCircuitsByTimeConstant(List, double, double)}.
+	 * 
+	 * @param sortedEffectiveResistances effective resistances in ascending order (Ohms)
+	 * @param effectiveCapacitance the effective capacitance (&mu;F)
+	 * @param timeConstant the time constant
+	 * @param tolerance allowed tolerance (or 0)
+	 * @return the number of matching resistances
+	 */
+	private static int countResistancesInRange(int[] sortedEffectiveResistances, double effectiveCapacitance, double timeConstant, double tolerance) {
+		// |tau - timeConstant| <= tolerance is -tolerance <= tau - timeConstant <= tolerance
+		int low = 0;
+		int high = sortedEffectiveResistances.length;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(Circuit.calculateTimeConstant(sortedEffectiveResistances[mid], effectiveCapacitance) - timeConstant < -tolerance) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		int first = low;
+		
+		high = sortedEffectiveResistances.length;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(Circuit.calculateTimeConstant(sortedEffectiveResistances[mid], effectiveCapacitance) - timeConstant <= tolerance) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		return low - first;
+	}
+	
+	/**
+	 * Counts the effective capacitances which, combined with the effective resistance, are within
+	 * tolerance of the time constant. The comparison is done exactly as in
+	 * {@link #filterCircuitsByTimeConstant(List, double, double)}.
+	 * 
+	 * @param sortedEffectiveCapacitances effective capacitances in ascending order (&mu;F)
+	 * @param effectiveResistance the effective resistance (Ohms)
+	 * @param timeConstant the time constant
+	 * @param tolerance allowed tolerance (or 0)
+	 * @return the number of matching capacitances
+	 */
+	private static int countCapacitancesInRange(double[] sortedEffectiveCapacitances, int effectiveResistance, double timeConstant, double tolerance) {
+		int low = 0;
+		int high = sortedEffectiveCapacitances.length;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(Circuit.calculateTimeConstant(effectiveResistance, sortedEffectiveCapacitances[mid]) - timeConstant < -tolerance) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		int first = low;
+		
+		high = sortedEffectiveCapacitances.length;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(Circuit.calculateTimeConstant(effectiveResistance, sortedEffectiveCapacitances[mid]) - timeConstant <= tolerance) {
+				low = mid + 1;
+			}else {
+				high = mid;
+			}
+		}
+		return low - first;
+	}
+	
+	/**
+	 * Fetches the effective resistance of every combination of at most the specified
+	 * number of resistors, in ascending order. Combinations that happen to share an 
+	 * effective resistance are repeated.
+	 * 
+	 * @param maxNumResistors maximum number of resistors
+	 * @return the sorted effective resistances (Ohms)
+	 */
+	private int[] getEffectiveResistancesOhms(int maxNumResistors) {
+		long numCombinations = countMultiCombinations(resistors.size(), maxNumResistors);
+		if(numCombinations > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many combinations of " + resistors.size() + " resistors with at most " + maxNumResistors + " each");
+		}
+		
+		final int[] result = new int[(int) numCombinations];
+		final int[] next = new int[1];
+		forEachEffectiveResistance(maxNumResistors, effectiveResistanceOhms -> {
+			result[next[0]++] = effectiveResistanceOhms;
+			return true;
+		});
+		Arrays.sort(result);
+		return result;
+	}
+	
+	/**
+	 * Fetches the effective capacitance of every combination of at most the specified
+	 * number of capacitors.
+	 * 
+	 * @param maxNumCapacitors maximum number of capacitors
+	 * @return the effective capacitances (&mu;F)
+	 */
+	private double[] getEffectiveCapacitancesMicroFarads(int maxNumCapacitors) {
+		long numCombinations = countMultiCombinations(capacitors.size(), maxNumCapacitors);
+		if(numCombinations > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many combinations of " + capacitors.size() + " capacitors with at most " + maxNumCapacitors + " each");
+		}
+		
+		final double[] result = new double[(int) numCombinations];
+		final int[] next = new int[1];
+		forEachEffectiveCapacitance(maxNumCapacitors, effectiveCapacitanceMicroFarads -> {
+			result[next[0]++] = effectiveCapacitanceMicroFarads;
+			return true;
+		});
+		return result;
+	}
+	
+	/**
+	 * Passes the effective resistance of each combination of at most the specified number
+	 * of resistors to the visitor, until the visitor returns false.
+	 * 
+	 * @param maxNumResistors maximum number of resistors
+	 * @param visitor accepts each effective resistance (Ohms), returning false to stop
+	 */
+	private void forEachEffectiveResistance(int maxNumResistors, IntPredicate visitor) {
+		for(int numResistors = 1; numResistors <= maxNumResistors && !resistors.isEmpty(); numResistors++) {
+			int[] indices = new int[numResistors];
+			do {
+				int effectiveResistanceOhms = 0;
+				for(int index : indices) {
+					effectiveResistanceOhms += resistors.get(index).getResistanceOhms();
+				}
+				if(!visitor.test(effectiveResistanceOhms)) {
+					return;
+				}
+			} while(nextMultiCombination(indices, resistors.size()));
+		}
+	}
+	
+	/**
+	 * Passes the effective capacitance of each combination of at most the specified number
+	 * of capacitors to the visitor, until the visitor returns false.
+	 * 
+	 * @param maxNumCapacitors maximum number of capacitors
+	 * @param visitor accepts each effective capacitance (&mu;F), returning false to stop
+	 */
+	private void forEachEffectiveCapacitance(int maxNumCapacitors, DoublePredicate visitor) {
+		for(int numCapacitors = 1; numCapacitors <= maxNumCapacitors && !capacitors.isEmpty(); numCapacitors++) {
+			int[] indices = new int[numCapacitors];
+			List<Capacitor> combination = new ArrayList<>(numCapacitors);
+			do {
+				combination.clear();
+				for(int index : indices) {
+					combination.add(capacitors.get(index));
+				}
+				if(!visitor.test(Circuit.calculateEffectiveCapacitanceMicroFarads(combination))) {
+					return;
+				}
+			} while(nextMultiCombination(indices, capacitors.size()));
+		}
+	}
+	
+	/**
+	 * Counts the multi-combinations of size 1 through <code>maxSize</code> of
+	 * <code>n</code> elements, which is the sum of (n + k - 1 choose k)
+	 * 
+	 * @param n number of elements
+	 * @param maxSize maximum size of each combination
+	 * @return the number of multi-combinations, or <code>Long.MAX_VALUE</code> if it does not fit in a long
+	 */
+	private static long countMultiCombinations(int n, int maxSize) {
+		if(n == 0) {
+			return 0;
+		}
+		long total = 0;
+		long choose = 1;
+		try {
+			for(int k = 1; k <= maxSize; k++) {
+				// (n + k - 1 choose k) = (n + k - 2 choose k - 1) * (n + k - 1) / k
+				choose = Math.multiplyExact(choose, n + k - 1) / k;
+				total = Math.addExact(total, choose);
+			}
+		}catch(ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+		return total;
+	}
+	
+	/**
+	 * Advances the non-decreasing indices to the next multi-combination
+	 * 
+	 * @param indices the current indices, modified in place
+	 * @param n number of elements
+	 * @return false if there was no next multi-combination
+	 */
+	private static boolean nextMultiCombination(int[] indices, int n) {
+		int i = indices.length - 1;
+		while(i >= 0 && indices[i] == n - 1) {
+			i--;
+		}
+		if(i < 0) {
+			return false;
+		}
+		indices[i]++;
+		for(int j = i + 1; j < indices.length; j++) {
+			indices[j] = indices[i];
+		}
+		return true;
+	}
+	
 	/**
 	 * Returns a subset of the circuits provided where the circuits time constant
 	 * is within <code>tolerance</code> of <code>timeConstant</code>
@@ -0,0 +1,247 @@
+package me.timothy.physics.rc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Simulates the voltage across the capacitors of many circuits in response to
+ * a step in the source voltage, and compares the result to a measured reference
+ * waveform.
+ *
+ * <h2>Quantitative Analysis</h2>
+ * <p>A circuit of the type described in {@link RCCircuitGenerator} with time constant
+ * &tau; charging from 0 towards a source voltage V0 follows:</p>
+ * <pre>V(t) = V0 * (1 - e^(-t / &tau;))</pre>
+ * <p>and discharging from V0 towards 0 follows:</p>
+ * <pre>V(t) = V0 * e^(-t / &tau;)</pre>
+ * <p>Curves are sampled at <code>t = i * sampleIntervalSeconds</code> for
+ * <code>i = 0, 1, ..., numSamples - 1</code>, and the fit to a reference waveform
+ * sampled at the same times is measured by the root-mean-square error:</p>
+ * <pre>RMS = sqrt(((V(t0) - Vref0)^2 + ... + (V(tn-1) - Vrefn-1)^2) / n)</pre>
+ * <p>Since consecutive samples are a constant interval apart, e^(-t / &tau;) is found by
+ * multiplying by e^(-sampleIntervalSeconds / &tau;) once per sample rather than
+ * evaluating the exponential at every sample.</p>
+ *
+ * <p>A circuit with &tau; = 0 (no resistance) is treated as an ideal step: it is at its
+ * initial value at t = 0 and at its final value for every later sample. A circuit with
+ * &tau; = &infin; (no capacitors) never moves from its initial value. A circuit with neither
+ * resistors nor capacitors has no defined &tau; (0 &times; &infin;), so simulating or comparing
+ * one throws an <code>IllegalArgumentException</code> naming its index.</p>
+ *
+ * <p>Circuits are simulated in parallel. Curves are written into a single buffer,
+ * with the curve of circuit <code>i</code> occupying indices <code>i * numSamples</code>
+ * through <code>(i + 1) * numSamples - 1</code>.</p>
+ *
+ * @author Timothy Moore
+ * @see <a href="https://en.wikipedia.org/wiki/RC_circuit">RC Circuit</a>
+ * @see <a href="https://en.wikipedia.org/wiki/Root-mean-square_deviation">Root-mean-square deviation</a>
+ */
+public class StepResponseSimulator {
+	/**
+	 * Which direction the capacitors are moving in
+	 */
+	public enum Mode {
+		/**
+		 * Charging from 0 towards the source voltage
+		 */
+		CHARGING,
+
+		/**
+		 * Discharging from the source voltage towards 0
+		 */
+		DISCHARGING
+	}
+
+	// V(t) = finalVoltage + decayingVoltage * e^(-t / tau)
+	private double finalVoltage;
+	private double decayingVoltage;
+	private double sampleIntervalSeconds;
+	private int numSamples;
+
+	/**
+	 * Creates a simulator which samples the specified number of points
+	 * starting at t = 0.
+	 *
+	 * @param mode charging or discharging
+	 * @param sourceVoltage V0 (volts)
+	 * @param sampleIntervalSeconds time between samples (seconds)
+	 * @param numSamples number of samples per curve
+	 */
+	public StepResponseSimulator(Mode mode, double sourceVoltage, double sampleIntervalSeconds, int numSamples) {
+		if(mode == null) {
+			throw new IllegalArgumentException("mode cannot be null");
+		}
+		if(sampleIntervalSeconds <= 0) {
+			throw new IllegalArgumentException("sampleIntervalSeconds must be positive, got " + sampleIntervalSeconds);
+		}
+		if(numSamples <= 0) {
+			throw new IllegalArgumentException("numSamples must be positive, got " + numSamples);
+		}
+
+		switch(mode) {
+		case CHARGING:
+			// V(t) = V0 * (1 - e^(-t / tau))
+			finalVoltage = sourceVoltage;
+			decayingVoltage = -sourceVoltage;
+			break;
+		case DISCHARGING:
+			// V(t) = V0 * e^(-t / tau)
+			finalVoltage = 0;
+			decayingVoltage = sourceVoltage;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown mode " + mode);
+		}
+		this.sampleIntervalSeconds = sampleIntervalSeconds;
+		this.numSamples = numSamples;
+	}
+
+	/**
+	 * Fetches the number of samples in each curve
+	 * @return number of samples per curve
+	 */
+	public int getNumSamples() {
+		return numSamples;
+	}
+
+	/**
+	 * Simulates the specified circuits into a newly allocated buffer.
+	 *
+	 * @param circuits the circuits to simulate
+	 * @return the curves, <code>numSamples</code> volts per circuit
+	 * @see #simulate(List, double[])
+	 */
+	public double[] simulate(List<Circuit> circuits) {
+		double[] result = new double[circuits.size() * numSamples];
+		simulate(circuits, result);
+		return result;
+	}
+
+	/**
+	 * Simulates the specified circuits into the specified buffer, which
+	 * may be reused between calls.
+	 *
+	 * @param circuits the circuits to simulate
+	 * @param out where the curves are written, at least <code>circuits.size() * numSamples</code> long
+	 */
+	public void simulate(List<Circuit> circuits, double[] out) {
+		if(out.length < (long) circuits.size() * numSamples) {
+			throw new IllegalArgumentException("out must hold " + circuits.size() + " curves of " + numSamples
+					+ " samples, but only has length " + out.length);
+		}
+
+		double[] timeConstants = getTimeConstants(circuits);
+		IntStream.range(0, timeConstants.length).parallel().forEach(i -> {
+			int offset = i * numSamples;
+			double ratio = getDecayRatio(timeConstants[i]);
+			double decay = 1;
+			for(int sample = 0; sample < numSamples; sample++) {
+				out[offset + sample] = finalVoltage + decayingVoltage * decay;
+				decay *= ratio;
+			}
+		});
+	}
+
+	/**
+	 * Calculates the RMS error of each circuit against the reference waveform into
+	 * a newly allocated buffer.
+	 *
+	 * @param circuits the circuits to compare
+	 * @param reference the measured waveform, <code>numSamples</code> volts
+	 * @return the RMS error of each circuit (volts)
+	 * @see #computeRMSErrors(List, double[], double[])
+	 */
+	public double[] computeRMSErrors(List<Circuit> circuits, double[] reference) {
+		double[] result = new double[circuits.size()];
+		computeRMSErrors(circuits, reference, result);
+		return result;
+	}
+
+	/**
+	 * Calculates the RMS error of each circuit against the reference waveform into
+	 * the specified buffer. The curves are compared as they are simulated, so they are
+	 * never stored.
+	 *
+	 * @param circuits the circuits to compare
+	 * @param reference the measured waveform, <code>numSamples</code> volts
+	 * @param out where the RMS errors are written, at least <code>circuits.size()</code> long
+	 */
+	public void computeRMSErrors(List<Circuit> circuits, double[] reference, double[] out) {
+		if(reference.length != numSamples) {
+			throw new IllegalArgumentException("reference must have " + numSamples + " samples, got " + reference.length);
+		}
+		if(out.length < circuits.size()) {
+			throw new IllegalArgumentException("out must hold " + circuits.size() + " errors, but only has length " + out.length);
+		}
+
+		double[] timeConstants = getTimeConstants(circuits);
+		IntStream.range(0, timeConstants.length).parallel().forEach(i -> {
+			double ratio = getDecayRatio(timeConstants[i]);
+			double decay = 1;
+			double sumSquares = 0;
+			for(int sample = 0; sample < numSamples; sample++) {
+				double error = finalVoltage + decayingVoltage * decay - reference[sample];
+				sumSquares += error * error;
+				decay *= ratio;
+			}
+			out[i] = Math.sqrt(sumSquares / numSamples);
+		});
+	}
+
+	/**
+	 * Sorts the circuits by how well they fit the reference waveform, best first.
+	 *
+	 * @param circuits the circuits to rank
+	 * @param reference the measured waveform, <code>numSamples</code> volts
+	 * @return the circuits in ascending order of RMS error
+	 */
+	public List<Circuit> rankByFit(List<Circuit> circuits, double[] reference) {
+		double[] errors = computeRMSErrors(circuits, reference);
+
+		List<Circuit> result = new ArrayList<>(circuits.size());
+		IntStream.range(0, circuits.size()).boxed()
+			.sorted(Comparator.comparingDouble(i -> errors[i]))
+			.forEachOrdered(i -> result.add(circuits.get(i)));
+		return result;
+	}
+
+	/**
+	 * Fetches the time constants up front so the parallel kernels work on a primitive
+	 * array rather than unboxing the cached time constant of each circuit.
+	 * Rejects circuits without a defined time constant.
+	 *
+	 * @param circuits the circuits
+	 * @return &tau; of each circuit (seconds)
+	 */
+	private static double[] getTimeConstants(List<Circuit> circuits) {
+		double[] result = new double[circuits.size()];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = circuits.get(i).getTimeConstant();
+			if(Double.isNaN(result[i])) {
+				throw new IllegalArgumentException("Circuit " + i + " has no defined time constant: " + circuits.get(i).resistors 
+						+ " " + circuits.get(i).capacitors);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates how much e^(-t / &tau;) shrinks between consecutive samples
+	 * 
+	 * @param timeConstant &tau; (seconds)
+	 * @return e^(-sampleIntervalSeconds / &tau;)
+	 */
+	private double getDecayRatio(double timeConstant) {
+		if(timeConstant == 0) {
+			// Ideal step: fully decayed after the first sample
+			return 0;
+		}
+		if(Double.isInfinite(timeConstant)) {
+			// No capacitors: never decays
+			return 1;
+		}
+		return Math.exp(-sampleIntervalSeconds / timeConstant);
+	}
+}